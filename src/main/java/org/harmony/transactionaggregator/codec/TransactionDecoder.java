@@ -0,0 +1,183 @@
+package org.harmony.transactionaggregator.codec;
+
+import org.harmony.transactionaggregator.model.Transaction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.harmony.transactionaggregator.codec.TransactionWireFormat.*;
+
+/**
+ * Decodes the {@link TransactionWireFormat} binary format. Depends only on
+ * {@link Transaction} and the JDK, so service-to-service clients can use it without
+ * pulling in the aggregator itself.
+ */
+public final class TransactionDecoder {
+
+    private final byte[] payload;
+    private int position;
+
+    private TransactionDecoder(byte[] payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payload is not a valid version 1 encoding
+     */
+    public static List<Transaction> decode(byte[] payload) {
+        return new TransactionDecoder(payload).read();
+    }
+
+    public static List<Transaction> decode(InputStream in) throws IOException {
+        return decode(in.readAllBytes());
+    }
+
+    private List<Transaction> read() {
+        for (byte b : MAGIC) {
+            if (readByte() != b) {
+                throw new IllegalArgumentException("Not a binary transaction payload");
+            }
+        }
+        int version = readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary transaction version: " + version);
+        }
+
+        String[] servers = readDictionary();
+        String[] accounts = readDictionary();
+        int count = readLength();
+
+        List<Transaction> transactions = new ArrayList<>(count);
+        long previousSeconds = 0;
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId(readNullableString());
+            transaction.setServerId(lookup(servers, readInt(servers.length)));
+            transaction.setAccount(lookup(accounts, readInt(accounts.length)));
+            transaction.setAmount(readNullableString());
+
+            long tag = readVarint();
+            int kind = (int) (tag & 0x3);
+            if (kind == TS_RAW) {
+                transaction.setTimestamp(readString());
+            } else if (kind == TS_SECONDS || kind == TS_NANOS) {
+                long zigzag = tag >>> 2;
+                previousSeconds += (zigzag >>> 1) ^ -(zigzag & 1);
+                int nanos = kind == TS_NANOS ? readInt(999_999_999) : 0;
+                transaction.setTimestamp(format(previousSeconds, nanos));
+            }
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    private static String format(long epochSeconds, int nanos) {
+        LocalDateTime time;
+        try {
+            time = LocalDateTime.ofEpochSecond(epochSeconds, nanos, ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid timestamp in binary transaction payload", e);
+        }
+        int year = time.getYear();
+        if (nanos != 0 || year < 0 || year > 9999) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time);
+        }
+
+        char[] chars = {'0', '0', '0', '0', '-', '0', '0', '-', '0', '0', 'T',
+                '0', '0', ':', '0', '0', ':', '0', '0'};
+        writeDigits(chars, 0, 4, year);
+        writeDigits(chars, 5, 2, time.getMonthValue());
+        writeDigits(chars, 8, 2, time.getDayOfMonth());
+        writeDigits(chars, 11, 2, time.getHour());
+        writeDigits(chars, 14, 2, time.getMinute());
+        writeDigits(chars, 17, 2, time.getSecond());
+        return new String(chars);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int length, int value) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static String lookup(String[] dictionary, int index) {
+        return index == 0 ? null : dictionary[index - 1];
+    }
+
+    private String[] readDictionary() {
+        String[] values = new String[readLength()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString();
+        }
+        return values;
+    }
+
+    private String readNullableString() {
+        int length = readLength();
+        return length == 0 ? null : readUtf8(length - 1);
+    }
+
+    private String readString() {
+        return readUtf8(readLength());
+    }
+
+    private String readUtf8(int length) {
+        if (length > payload.length - position) {
+            throw truncated();
+        }
+        String value = new String(payload, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads a varint used as a length, count or index. None of these can exceed the
+     * number of bytes left, which also stops a corrupt header from forcing a huge allocation.
+     */
+    private int readLength() {
+        long value = readVarint();
+        if (value < 0 || value > payload.length - position + 1) {
+            throw new IllegalArgumentException("Invalid length in binary transaction payload: " + value);
+        }
+        return (int) value;
+    }
+
+    private int readInt(int max) {
+        long value = readVarint();
+        if (value < 0 || value > max) {
+            throw new IllegalArgumentException("Value out of range in binary transaction payload: " + value);
+        }
+        return (int) value;
+    }
+
+    private long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in binary transaction payload");
+    }
+
+    private int readByte() {
+        if (position >= payload.length) {
+            throw truncated();
+        }
+        return payload[position++] & 0xFF;
+    }
+
+    private static IllegalArgumentException truncated() {
+        return new IllegalArgumentException("Truncated binary transaction payload");
+    }
+}
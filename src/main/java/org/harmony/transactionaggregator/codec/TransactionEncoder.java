@@ -0,0 +1,181 @@
+package org.harmony.transactionaggregator.codec;
+
+import org.harmony.transactionaggregator.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.harmony.transactionaggregator.codec.TransactionWireFormat.*;
+
+/**
+ * Encodes transactions into the {@link TransactionWireFormat} binary format.
+ */
+public final class TransactionEncoder {
+
+    private byte[] buffer;
+    private int position;
+
+    private TransactionEncoder(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public static byte[] encode(List<Transaction> transactions) {
+        return new TransactionEncoder(64 + transactions.size() * 32).write(transactions);
+    }
+
+    private byte[] write(List<Transaction> transactions) {
+        Map<String, Integer> servers = new LinkedHashMap<>();
+        Map<String, Integer> accounts = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getServerId() != null) {
+                servers.putIfAbsent(transaction.getServerId(), servers.size());
+            }
+            if (transaction.getAccount() != null) {
+                accounts.putIfAbsent(transaction.getAccount(), accounts.size());
+            }
+        }
+
+        writeBytes(MAGIC);
+        writeByte(VERSION);
+        writeDictionary(servers);
+        writeDictionary(accounts);
+        writeVarint(transactions.size());
+
+        long previousSeconds = 0;
+        for (Transaction transaction : transactions) {
+            writeNullableString(transaction.getId());
+            writeVarint(indexOf(servers, transaction.getServerId()));
+            writeVarint(indexOf(accounts, transaction.getAccount()));
+            writeNullableString(transaction.getAmount());
+            previousSeconds = writeTimestamp(transaction.getTimestamp(), previousSeconds);
+        }
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private long writeTimestamp(String timestamp, long previousSeconds) {
+        if (timestamp == null) {
+            writeVarint(TS_NULL);
+            return previousSeconds;
+        }
+        LocalDateTime parsed = parseCanonical(timestamp);
+        if (parsed == null) {
+            writeVarint(TS_RAW);
+            writeString(timestamp);
+            return previousSeconds;
+        }
+
+        long seconds = parsed.toEpochSecond(ZoneOffset.UTC);
+        int nanos = parsed.getNano();
+        long delta = seconds - previousSeconds;
+        long zigzag = (delta << 1) ^ (delta >> 63);
+        writeVarint((zigzag << 2) | (nanos == 0 ? TS_SECONDS : TS_NANOS));
+        if (nanos != 0) {
+            writeVarint(nanos);
+        }
+        return seconds;
+    }
+
+    /**
+     * Parses the timestamp if it is exactly what ISO_LOCAL_DATE_TIME would print for it,
+     * so the decoder can reproduce the original string. The common
+     * {@code yyyy-MM-ddTHH:mm:ss} shape is parsed by hand.
+     */
+    private static LocalDateTime parseCanonical(String timestamp) {
+        if (timestamp.length() == 19
+                && timestamp.charAt(4) == '-' && timestamp.charAt(7) == '-'
+                && timestamp.charAt(10) == 'T'
+                && timestamp.charAt(13) == ':' && timestamp.charAt(16) == ':') {
+            int year = digits(timestamp, 0, 4);
+            int month = digits(timestamp, 5, 2);
+            int day = digits(timestamp, 8, 2);
+            int hour = digits(timestamp, 11, 2);
+            int minute = digits(timestamp, 14, 2);
+            int second = digits(timestamp, 17, 2);
+            if ((year | month | day | hour | minute | second) >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second);
+                } catch (DateTimeException e) {
+                    return null;
+                }
+            }
+        }
+        try {
+            LocalDateTime parsed = LocalDateTime.parse(timestamp);
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(parsed).equals(timestamp) ? parsed : null;
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(String value, int offset, int length) {
+        int result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int indexOf(Map<String, Integer> dictionary, String value) {
+        return value == null ? 0 : dictionary.get(value) + 1;
+    }
+
+    private void writeDictionary(Map<String, Integer> dictionary) {
+        writeVarint(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            writeString(value);
+        }
+    }
+
+    private void writeNullableString(String value) {
+        if (value == null) {
+            writeVarint(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length + 1L);
+        writeBytes(bytes);
+    }
+
+    private void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        writeBytes(bytes);
+    }
+
+    private void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.harmony.transactionaggregator.codec;
+
+/**
+ * Compact binary encoding for lists of transactions, version 1.
+ *
+ * <pre>
+ * payload     = magic "HTX" , version:u8 , servers:dict , accounts:dict , count:varint , record*
+ * dict        = size:varint , string*
+ * record      = id:nstring , server:varint , account:varint , amount:nstring , timestamp
+ * timestamp   = tag:varint [ , nanos:varint | raw:string ]
+ * nstring     = (length + 1):varint , utf8   (0 means null)
+ * string      = length:varint , utf8
+ * </pre>
+ *
+ * {@code server} and {@code account} are dictionary indexes plus one, with 0 meaning null.
+ * The low two bits of the timestamp {@code tag} select its kind; for {@link #TS_SECONDS}
+ * and {@link #TS_NANOS} the remaining bits are the zigzag-encoded difference in epoch
+ * seconds (UTC) from the previous encoded timestamp. Timestamps that are not canonical
+ * ISO-8601 local date-times are kept verbatim as {@link #TS_RAW}.
+ */
+public final class TransactionWireFormat {
+
+    public static final String MEDIA_TYPE = "application/x-harmony-transactions";
+
+    static final byte[] MAGIC = {'H', 'T', 'X'};
+    static final int VERSION = 1;
+
+    static final int TS_NULL = 0;
+    static final int TS_RAW = 1;
+    static final int TS_SECONDS = 2;
+    static final int TS_NANOS = 3;
+
+    private TransactionWireFormat() {
+    }
+}
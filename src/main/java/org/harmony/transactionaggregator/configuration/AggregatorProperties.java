@@ -0,0 +1,203 @@
+package org.harmony.transactionaggregator.configuration;
+
+import org.harmony.transactionaggregator.model.RequestClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "aggregator")
+public class AggregatorProperties {
+
+    private List<Upstream> upstreams = new ArrayList<>();
+    private Lane interactiveLane = new Lane(4, 1.0);
+    private Lane bulkLane = new Lane(1, 0.5);
+
+    public List<Upstream> getUpstreams() {
+        return upstreams;
+    }
+
+    public void setUpstreams(List<Upstream> upstreams) {
+        this.upstreams = upstreams;
+    }
+
+    public Lane getInteractiveLane() {
+        return interactiveLane;
+    }
+
+    public void setInteractiveLane(Lane interactiveLane) {
+        this.interactiveLane = interactiveLane;
+    }
+
+    public Lane getBulkLane() {
+        return bulkLane;
+    }
+
+    public void setBulkLane(Lane bulkLane) {
+        this.bulkLane = bulkLane;
+    }
+
+    public Map<RequestClass, Lane> lanes() {
+        Map<RequestClass, Lane> lanes = new EnumMap<>(RequestClass.class);
+        lanes.put(RequestClass.INTERACTIVE, interactiveLane);
+        lanes.put(RequestClass.BULK, bulkLane);
+        return lanes;
+    }
+
+    /**
+     * Returns the configured settings for the given base URL, or defaults when the
+     * upstream has not been configured explicitly.
+     */
+    public Upstream upstreamFor(String baseUrl) {
+        for (Upstream upstream : upstreams) {
+            if (baseUrl.equals(upstream.getBaseUrl())) {
+                return upstream;
+            }
+        }
+        Upstream defaults = new Upstream();
+        defaults.setBaseUrl(baseUrl);
+        return defaults;
+    }
+
+    public static class Upstream {
+
+        private String name;
+        private String baseUrl;
+        private int initialLimit = 4;
+        private int minLimit = 1;
+        private int maxLimit = 8;
+        private int queueCapacity = 100;
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private double backoffRatio = 0.9;
+        private List<String> replicas = new ArrayList<>();
+        private double hedgeBudgetPercent = 5.0;
+        private boolean supportsTimeRange;
+
+        public String getName() {
+            return name != null ? name : baseUrl;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public List<String> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<String> replicas) {
+            this.replicas = replicas;
+        }
+
+        public double getHedgeBudgetPercent() {
+            return hedgeBudgetPercent;
+        }
+
+        public void setHedgeBudgetPercent(double hedgeBudgetPercent) {
+            this.hedgeBudgetPercent = hedgeBudgetPercent;
+        }
+
+        public boolean isSupportsTimeRange() {
+            return supportsTimeRange;
+        }
+
+        public void setSupportsTimeRange(boolean supportsTimeRange) {
+            this.supportsTimeRange = supportsTimeRange;
+        }
+    }
+
+    /**
+     * Scheduling settings for one request class. {@code weight} is the lane's share of
+     * dispatches when several lanes are backlogged; {@code maxShare} caps the fraction of an
+     * upstream's concurrency limit the lane may occupy at once.
+     */
+    public static class Lane {
+
+        private int weight;
+        private double maxShare;
+
+        public Lane() {
+            this(1, 1.0);
+        }
+
+        public Lane(int weight, double maxShare) {
+            this.weight = weight;
+            this.maxShare = maxShare;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+
+        public double getMaxShare() {
+            return maxShare;
+        }
+
+        public void setMaxShare(double maxShare) {
+            this.maxShare = maxShare;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.harmony.transactionaggregator.configuration;
+
+import org.harmony.transactionaggregator.codec.TransactionDecoder;
+import org.harmony.transactionaggregator.codec.TransactionEncoder;
+import org.harmony.transactionaggregator.codec.TransactionWireFormat;
+import org.harmony.transactionaggregator.model.Transaction;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes {@code List<Transaction>} in the compact {@link TransactionWireFormat}.
+ */
+public class TransactionBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<Transaction>> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(TransactionWireFormat.MEDIA_TYPE);
+
+    public TransactionBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isTransactionList(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isTransactionList(type) && canWrite(mediaType);
+    }
+
+    @Override
+    public List<Transaction> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException {
+        return readInternal(null, inputMessage);
+    }
+
+    @Override
+    protected List<Transaction> readInternal(Class<? extends List<Transaction>> clazz,
+                                             HttpInputMessage inputMessage) throws IOException {
+        try {
+            return TransactionDecoder.decode(inputMessage.getBody());
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(List<Transaction> transactions, Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        outputMessage.getBody().write(TransactionEncoder.encode(transactions));
+    }
+
+    private static boolean isTransactionList(Type type) {
+        if (type == null) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type);
+        if (!List.class.isAssignableFrom(resolved.toClass())) {
+            return false;
+        }
+        Class<?> element = resolved.asCollection().resolveGeneric(0);
+        return element != null && Transaction.class.isAssignableFrom(element);
+    }
+}
@@ -0,0 +1,17 @@
+package org.harmony.transactionaggregator.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Appended after Jackson so JSON stays the default for Accept: */* and missing Accept headers.
+        converters.add(new TransactionBinaryHttpMessageConverter());
+    }
+}
@@ -1,12 +1,18 @@
 package org.harmony.transactionaggregator.controller;
 
+import org.harmony.transactionaggregator.model.RequestClass;
 import org.harmony.transactionaggregator.model.Transaction;
 import org.harmony.transactionaggregator.service.AsyncService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -23,11 +29,41 @@ public class AggregatorController {
     }
 
     @GetMapping("/aggregate")
-    public List<Transaction> aggregator(@RequestParam String account) {
+    public List<Transaction> aggregator(
+            @RequestParam String account,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = RequestClass.HEADER, required = false) String requestClass) {
+        RequestClass resolved;
+        try {
+            resolved = RequestClass.fromHeader(requestClass);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown request class: " + requestClass);
+        }
+        return aggregate(account, from, to, resolved);
+    }
+
+    /**
+     * Same as {@code /aggregate}, always scheduled as bulk traffic.
+     */
+    @GetMapping("/aggregate/export")
+    public List<Transaction> export(
+            @RequestParam String account,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return aggregate(account, from, to, RequestClass.BULK);
+    }
+
+    private List<Transaction> aggregate(String account, LocalDateTime from, LocalDateTime to,
+                                        RequestClass requestClass) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+        }
+
         CompletableFuture<List<Transaction>> future1 =
-                asyncService.fetchAsync("http://localhost:8888", account);
+                asyncService.fetchAsync("http://localhost:8888", account, from, to, requestClass);
         CompletableFuture<List<Transaction>> future2 =
-                asyncService.fetchAsync("http://localhost:8889", account);
+                asyncService.fetchAsync("http://localhost:8889", account, from, to, requestClass);
 
         CompletableFuture.allOf(future1, future2).join();
 
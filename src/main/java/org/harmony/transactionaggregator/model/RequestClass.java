@@ -0,0 +1,27 @@
+package org.harmony.transactionaggregator.model;
+
+import java.util.Locale;
+
+/**
+ * Scheduling class of an aggregation request. Interactive traffic is user-facing and
+ * latency-sensitive; bulk traffic (exports, reconciliation) is throughput-oriented.
+ */
+public enum RequestClass {
+
+    INTERACTIVE,
+    BULK;
+
+    public static final String HEADER = "X-Request-Class";
+
+    /**
+     * Resolves the {@value #HEADER} header value, defaulting to {@link #INTERACTIVE}.
+     *
+     * @throws IllegalArgumentException if the value names no request class
+     */
+    public static RequestClass fromHeader(String value) {
+        if (value == null || value.isBlank()) {
+            return INTERACTIVE;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,114 @@
+package org.harmony.transactionaggregator.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, time-indexed snapshot of an account's transactions from one upstream.
+ * Transactions are held newest first next to a primitive array of their timestamps in
+ * epoch nanoseconds, so a time-range lookup is two binary searches plus a view over the
+ * matching slice. Timestamps outside the range a {@code long} of nanoseconds can hold
+ * (roughly 1677 to 2262) are clamped to its ends.
+ * Transactions whose timestamp cannot be parsed sort last and only appear in unbounded
+ * lookups.
+ */
+public final class TransactionHistory {
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Transaction[] transactions;
+    private final long[] timestamps;
+
+    private TransactionHistory(Transaction[] transactions, long[] timestamps) {
+        this.transactions = transactions;
+        this.timestamps = timestamps;
+    }
+
+    public static TransactionHistory of(List<Transaction> transactions) {
+        int size = transactions.size();
+        long[] keys = new long[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = epochNanos(transactions.get(i).getTimestamp());
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> keys[i]).reversed());
+
+        Transaction[] sorted = new Transaction[size];
+        long[] sortedKeys = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = transactions.get(order[i]);
+            sortedKeys[i] = keys[order[i]];
+        }
+        return new TransactionHistory(sorted, sortedKeys);
+    }
+
+    public int size() {
+        return transactions.length;
+    }
+
+    public List<Transaction> all() {
+        return Collections.unmodifiableList(Arrays.asList(transactions));
+    }
+
+    /**
+     * Returns the transactions with {@code from <= timestamp <= to}, newest first. Either
+     * bound may be {@code null} to leave that side open; with both open every transaction
+     * is returned.
+     */
+    public List<Transaction> between(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return all();
+        }
+        long upper = to != null ? epochNanos(to) : Long.MAX_VALUE;
+        long lower = from != null ? epochNanos(from) : UNKNOWN + 1;
+
+        int start = firstIndexAtOrBelow(upper);
+        int end = firstIndexAtOrBelow(lower - 1);
+        if (start >= end) {
+            return Collections.emptyList();
+        }
+        return all().subList(start, end);
+    }
+
+    private int firstIndexAtOrBelow(long key) {
+        int low = 0;
+        int high = timestamps.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] <= key) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static long epochNanos(String timestamp) {
+        if (timestamp == null) {
+            return UNKNOWN;
+        }
+        try {
+            return epochNanos(LocalDateTime.parse(timestamp));
+        } catch (DateTimeParseException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static long epochNanos(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        try {
+            return Math.addExact(Math.multiplyExact(seconds, NANOS_PER_SECOND), time.getNano());
+        } catch (ArithmeticException e) {
+            // UNKNOWN stays reserved for unparseable timestamps.
+            return seconds < 0 ? UNKNOWN + 1 : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.harmony.transactionaggregator.service;
+
+import java.time.Duration;
+
+/**
+ * AIMD concurrency limit for a single upstream. A call that completes under the latency
+ * threshold grows the limit by {@code 1 / limit} (roughly one slot per window of calls),
+ * while an overload response (503/529) or a slow call shrinks it by the backoff ratio.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private double limit;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException(
+                    "Invalid concurrency bounds: min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be in (0, 1): " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Feeds one completed call into the limit. The limit only grows while it is actually
+     * being used, so an idle upstream does not drift up to its maximum.
+     */
+    public synchronized void onSample(long latencyNanos, boolean overloaded, int inFlight) {
+        if (overloaded || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+}
@@ -1,10 +1,13 @@
 package org.harmony.transactionaggregator.service;
 
+import org.harmony.transactionaggregator.model.RequestClass;
 import org.harmony.transactionaggregator.model.Transaction;
+import org.harmony.transactionaggregator.model.TransactionHistory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -12,15 +15,37 @@ import java.util.concurrent.CompletableFuture;
 public class AsyncService {
 
     private final TransactionService transactionService;
+    private final UpstreamBulkheadRegistry bulkheads;
 
     @Autowired
-    public AsyncService(TransactionService transactionService) {
+    public AsyncService(TransactionService transactionService, UpstreamBulkheadRegistry bulkheads) {
         this.transactionService = transactionService;
+        this.bulkheads = bulkheads;
     }
 
-    @Async
-    public CompletableFuture<List<Transaction>> fetchAsync(String baseUrl, String account) {
-        List<Transaction> transactions = transactionService.fetchTransactions(baseUrl, account);
-        return CompletableFuture.completedFuture(transactions);
+    /**
+     * Fetches the account's transactions between {@code from} and {@code to} (inclusive,
+     * either may be {@code null}) in the upstream's lane for the given request class. The
+     * range is pushed down to upstreams that support it; otherwise it is looked up in the
+     * cached history. A cached history is answered at once without entering the bulkhead,
+     * so its limit only governs real upstream calls.
+     */
+    public CompletableFuture<List<Transaction>> fetchAsync(String baseUrl, String account,
+                                                           LocalDateTime from, LocalDateTime to,
+                                                           RequestClass requestClass) {
+        UpstreamBulkhead bulkhead = bulkheads.bulkheadFor(baseUrl);
+        boolean pushDown = (from != null || to != null) && bulkhead.supportsTimeRange();
+        if (!pushDown) {
+            TransactionHistory cached = transactionService.cachedHistory(baseUrl, account);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached.between(from, to));
+            }
+        }
+
+        return bulkhead
+                .submit(requestClass, () -> pushDown
+                        ? transactionService.fetchTransactions(baseUrl, account, from, to)
+                        : transactionService.fetchHistory(baseUrl, account, requestClass).between(from, to))
+                .exceptionally(e -> new ArrayList<>());
     }
 }
@@ -0,0 +1,32 @@
+package org.harmony.transactionaggregator.service;
+
+/**
+ * Token bucket that caps hedged requests at a percentage of primary requests. Every primary
+ * request earns {@code percent / 100} of a token and every hedge spends a whole one.
+ */
+public class HedgeBudget {
+
+    private static final double MAX_TOKENS = 10.0;
+
+    private final double tokensPerRequest;
+    private double tokens;
+
+    public HedgeBudget(double percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Hedge budget must be between 0 and 100: " + percent);
+        }
+        this.tokensPerRequest = percent / 100.0;
+    }
+
+    public synchronized void onRequest() {
+        tokens = Math.min(MAX_TOKENS, tokens + tokensPerRequest);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package org.harmony.transactionaggregator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Sends a second request to a replica when the primary has not answered within the
+ * upstream's observed p95. The first successful response wins and the other request is
+ * cancelled. Hedges are capped by a {@link HedgeBudget}.
+ *
+ * <p>Only the primary leg is timed and reported, so a replica's latency or overload never
+ * feeds the primary's latency window or concurrency limit.
+ */
+public class HedgingPolicy {
+
+    private static final double HEDGE_PERCENTILE = 0.95;
+
+    private final List<String> replicas;
+    private final HedgeBudget budget;
+    private final LatencyTracker latencies;
+    private final Executor executor;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public HedgingPolicy(List<String> replicas, HedgeBudget budget,
+                         LatencyTracker latencies, Executor executor) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Hedging requires at least one replica");
+        }
+        this.replicas = List.copyOf(replicas);
+        this.budget = budget;
+        this.latencies = latencies;
+        this.executor = executor;
+    }
+
+    /**
+     * Runs {@code attempt} against the primary, hedging to a replica if it is slow, and
+     * reports the primary leg's latency and failure (or {@code null}) to {@code primaryOutcome}.
+     * A primary still running when the race is decided is reported as a success with its
+     * elapsed time so far, a lower bound on its latency; leaving it out would hide exactly
+     * the slow requests the p95 is meant to capture.
+     */
+    public <T> T execute(String primaryUrl, Function<String, T> attempt, AttemptListener primaryOutcome) {
+        budget.onRequest();
+        PrimaryLeg<T> primary = new PrimaryLeg<>(primaryUrl, attempt, primaryOutcome);
+        long hedgeDelay = latencies.percentile(HEDGE_PERCENTILE);
+        if (hedgeDelay < 0) {
+            return primary.call();
+        }
+
+        ExecutorCompletionService<T> race = new ExecutorCompletionService<>(executor);
+        List<Future<T>> legs = new ArrayList<>(2);
+        try {
+            legs.add(race.submit(primary));
+        } catch (RejectedExecutionException e) {
+            return primary.call();
+        }
+
+        try {
+            Future<T> first = race.poll(hedgeDelay, TimeUnit.NANOSECONDS);
+            if (first == null && budget.tryAcquire()) {
+                String replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+                try {
+                    legs.add(race.submit(() -> attempt.apply(replica)));
+                } catch (RejectedExecutionException e) {
+                    // No spare threads for the hedge; keep waiting on the primary.
+                }
+            }
+            if (first == null) {
+                first = race.take();
+            }
+
+            ExecutionException failure;
+            try {
+                return first.get();
+            } catch (ExecutionException e) {
+                failure = e;
+            }
+            if (legs.size() > 1) {
+                try {
+                    return race.take().get();
+                } catch (ExecutionException e) {
+                    // Both legs failed; report the one that failed first.
+                }
+            }
+            throw unwrap(failure);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + primaryUrl, e);
+        } finally {
+            primary.abandon();
+            legs.forEach(leg -> leg.cancel(true));
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * Receives the outcome of a single attempt; {@code failure} is {@code null} on success.
+     */
+    @FunctionalInterface
+    public interface AttemptListener {
+        void onAttempt(long latencyNanos, RuntimeException failure);
+    }
+
+    /**
+     * Times the primary attempt and reports it exactly once: when it completes, or when it
+     * is abandoned still running, whichever comes first.
+     */
+    private static final class PrimaryLeg<T> implements Callable<T> {
+
+        private final String url;
+        private final Function<String, T> attempt;
+        private final AttemptListener listener;
+        private final AtomicBoolean reported = new AtomicBoolean();
+        private final long start = System.nanoTime();
+
+        private PrimaryLeg(String url, Function<String, T> attempt, AttemptListener listener) {
+            this.url = url;
+            this.attempt = attempt;
+            this.listener = listener;
+        }
+
+        @Override
+        public T call() {
+            T result;
+            try {
+                result = attempt.apply(url);
+            } catch (RuntimeException e) {
+                report(e);
+                throw e;
+            }
+            report(null);
+            return result;
+        }
+
+        void abandon() {
+            report(null);
+        }
+
+        private void report(RuntimeException failure) {
+            if (reported.compareAndSet(false, true)) {
+                listener.onAttempt(System.nanoTime() - start, failure);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.harmony.transactionaggregator.service;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window over the most recent successful call latencies of one upstream.
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private final int minSamples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int windowSize, int minSamples) {
+        this.samples = new long[windowSize];
+        this.minSamples = minSamples;
+    }
+
+    public synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Returns the given percentile in nanoseconds, or {@code -1} until the window holds
+     * enough samples for the value to mean anything.
+     */
+    public long percentile(double percentile) {
+        long[] window;
+        synchronized (this) {
+            if (count < minSamples) {
+                return -1;
+            }
+            window = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(window);
+        int index = (int) Math.ceil(percentile * window.length) - 1;
+        return window[Math.max(0, Math.min(index, window.length - 1))];
+    }
+}
@@ -1,7 +1,11 @@
 package org.harmony.transactionaggregator.service;
 
+import org.harmony.transactionaggregator.model.RequestClass;
 import org.harmony.transactionaggregator.model.Transaction;
+import org.harmony.transactionaggregator.model.TransactionHistory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
@@ -12,49 +16,76 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class TransactionService {
 
     private final RestTemplate restTemplate;
+    private final UpstreamBulkheadRegistry bulkheads;
+    private final CacheManager cacheManager;
     private static final int MAX_RETRIES = 5;
 
     @Autowired
-    public TransactionService(RestTemplate restTemplate) {
+    public TransactionService(RestTemplate restTemplate, UpstreamBulkheadRegistry bulkheads,
+                              CacheManager cacheManager) {
         this.restTemplate = restTemplate;
+        this.bulkheads = bulkheads;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the history cached by {@link #fetchHistory}, or {@code null} when there is
+     * none. Never calls the upstream.
+     */
+    public TransactionHistory cachedHistory(String baseUrl, String account) {
+        Cache cache = cacheManager.getCache("transactions");
+        // Must match the key expression on fetchHistory.
+        return cache != null ? cache.get(baseUrl + "-" + account, TransactionHistory.class) : null;
+    }
+
+    /**
+     * Fetches the account's full history and caches it in time-indexed form, so range
+     * queries against upstreams without server-side filtering never rescan it. Bulk
+     * requests are served from the cache but never admit new entries, so a large export
+     * cannot fill it with histories no interactive caller will ask for.
+     */
+    @Cacheable(value = "transactions", key = "#baseUrl + '-' + #account",
+            unless = "#requestClass == T(org.harmony.transactionaggregator.model.RequestClass).BULK")
+    public TransactionHistory fetchHistory(String baseUrl, String account, RequestClass requestClass) {
+        return TransactionHistory.of(fetchTransactions(baseUrl, account));
     }
 
-    @Cacheable(value = "transactions", key = "#baseUrl + '-' + #account")
     public List<Transaction> fetchTransactions(String baseUrl, String account) {
+        return fetchTransactions(baseUrl, account, null, null);
+    }
+
+    /**
+     * Fetches transactions directly from the upstream, passing {@code from} and {@code to}
+     * through as query parameters when set. Only use the range for upstreams that support it.
+     */
+    public List<Transaction> fetchTransactions(String baseUrl, String account,
+                                               LocalDateTime from, LocalDateTime to) {
+        Optional<HedgingPolicy> hedging = bulkheads.hedgingFor(baseUrl);
         int attempt = 0;
 
         while (attempt < MAX_RETRIES) {
             try {
-                String url = baseUrl + "/transactions?account=" + account;
-                ResponseEntity<List<Transaction>> response =
-                        restTemplate.exchange(
-                                url,
-                                HttpMethod.GET,
-                                null,
-                                new ParameterizedTypeReference<List<Transaction>>() {}
-                        );
+                ResponseEntity<List<Transaction>> response = hedging.isPresent()
+                        ? hedging.get().execute(baseUrl, url -> exchange(url, account, from, to),
+                                (latencyNanos, failure) -> recordAttempt(baseUrl, latencyNanos, failure))
+                        : timedExchange(baseUrl, account, from, to);
 
                 return response.getBody() != null
                         ? response.getBody()
                         : new ArrayList<>();
 
-            } catch (HttpServerErrorException e) {
-                int statusCode = e.getStatusCode().value();
-                if (statusCode != 529 && statusCode != 503) {
-                    return new ArrayList<>();
-                }
-                attempt++;
-
-            } catch (HttpClientErrorException e) {
-                int statusCode = e.getStatusCode().value();
-                if (statusCode != 529) {
+            } catch (HttpServerErrorException | HttpClientErrorException e) {
+                if (!isOverloaded(e)) {
                     return new ArrayList<>();
                 }
                 attempt++;
@@ -65,4 +96,58 @@ public class TransactionService {
         }
         return new ArrayList<>();
     }
+
+    private ResponseEntity<List<Transaction>> timedExchange(String baseUrl, String account,
+                                                            LocalDateTime from, LocalDateTime to) {
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<List<Transaction>> response = exchange(baseUrl, account, from, to);
+            recordAttempt(baseUrl, System.nanoTime() - start, null);
+            return response;
+        } catch (RuntimeException e) {
+            recordAttempt(baseUrl, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Feeds one attempt against the upstream to its bulkhead. Successes and overload
+     * responses (503, 529) are samples; any other failure says nothing about load.
+     */
+    private void recordAttempt(String baseUrl, long latencyNanos, RuntimeException failure) {
+        if (failure == null) {
+            bulkheads.recordAttempt(baseUrl, latencyNanos, false);
+        } else if (isOverloaded(failure)) {
+            bulkheads.recordAttempt(baseUrl, latencyNanos, true);
+        }
+    }
+
+    private static boolean isOverloaded(RuntimeException e) {
+        if (e instanceof HttpServerErrorException serverError) {
+            int statusCode = serverError.getStatusCode().value();
+            return statusCode == 529 || statusCode == 503;
+        }
+        if (e instanceof HttpClientErrorException clientError) {
+            return clientError.getStatusCode().value() == 529;
+        }
+        return false;
+    }
+
+    private ResponseEntity<List<Transaction>> exchange(String baseUrl, String account,
+                                                       LocalDateTime from, LocalDateTime to) {
+        StringBuilder url = new StringBuilder(baseUrl)
+                .append("/transactions?account=").append(account);
+        if (from != null) {
+            url.append("&from=").append(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(from));
+        }
+        if (to != null) {
+            url.append("&to=").append(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(to));
+        }
+        return restTemplate.exchange(
+                url.toString(),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<Transaction>>() {}
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,272 @@
+package org.harmony.transactionaggregator.service;
+
+import org.harmony.transactionaggregator.configuration.AggregatorProperties;
+import org.harmony.transactionaggregator.model.RequestClass;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Isolates calls to one upstream behind its own queues, its own threads and an adaptive
+ * concurrency limit, so a slow upstream only ever backs up its own work.
+ *
+ * <p>Each {@link RequestClass} has its own lane. When several lanes are backlogged, slots
+ * are handed out by stride scheduling (a weighted fair queueing approximation): each
+ * dispatch advances the lane's pass by {@code 1 / weight} and the lane with the lowest pass
+ * goes next. A lane may also occupy at most its {@code maxShare} of the current limit, which
+ * keeps capacity free for the other lanes however deep its own backlog is.
+ */
+public class UpstreamBulkhead {
+
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final String name;
+    private final AdaptiveConcurrencyLimit limit;
+    private final int queueCapacity;
+    private final boolean supportsTimeRange;
+    private final ThreadPoolTaskExecutor executor;
+    private final LatencyTracker latencies = new LatencyTracker(LATENCY_WINDOW, MIN_LATENCY_SAMPLES);
+    private final ThreadPoolTaskExecutor hedgeExecutor;
+    private final HedgingPolicy hedging;
+    private final List<Deque<PendingCall>> pending = new ArrayList<>();
+    private final int[] weights;
+    private final double[] maxShares;
+    private final int[] laneInFlight;
+    private final double[] pass;
+    private double virtualTime;
+    private int inFlight;
+
+    public UpstreamBulkhead(AggregatorProperties.Upstream upstream,
+                            Map<RequestClass, AggregatorProperties.Lane> lanes) {
+        this.name = upstream.getName();
+        this.limit = new AdaptiveConcurrencyLimit(
+                upstream.getInitialLimit(),
+                upstream.getMinLimit(),
+                upstream.getMaxLimit(),
+                upstream.getLatencyThreshold(),
+                upstream.getBackoffRatio()
+        );
+        this.queueCapacity = upstream.getQueueCapacity();
+        this.supportsTimeRange = upstream.isSupportsTimeRange();
+
+        int laneCount = RequestClass.values().length;
+        this.weights = new int[laneCount];
+        this.maxShares = new double[laneCount];
+        this.laneInFlight = new int[laneCount];
+        this.pass = new double[laneCount];
+        for (RequestClass requestClass : RequestClass.values()) {
+            AggregatorProperties.Lane lane = lanes.get(requestClass);
+            if (lane.getWeight() < 1 || lane.getMaxShare() <= 0 || lane.getMaxShare() > 1) {
+                throw new IllegalArgumentException("Invalid lane settings for " + requestClass
+                        + ": weight=" + lane.getWeight() + ", maxShare=" + lane.getMaxShare());
+            }
+            weights[requestClass.ordinal()] = lane.getWeight();
+            maxShares[requestClass.ordinal()] = lane.getMaxShare();
+            pending.add(new ArrayDeque<>());
+        }
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(upstream.getMaxLimit());
+        executor.setMaxPoolSize(upstream.getMaxLimit());
+        executor.setThreadNamePrefix("Upstream-" + name + "-");
+        executor.initialize();
+
+        if (upstream.getReplicas().isEmpty()) {
+            this.hedgeExecutor = null;
+            this.hedging = null;
+        } else {
+            this.hedgeExecutor = new ThreadPoolTaskExecutor();
+            hedgeExecutor.setCorePoolSize(upstream.getMaxLimit());
+            hedgeExecutor.setMaxPoolSize(upstream.getMaxLimit() * 2);
+            hedgeExecutor.setQueueCapacity(0);
+            hedgeExecutor.setThreadNamePrefix("Hedge-" + name + "-");
+            hedgeExecutor.initialize();
+            this.hedging = new HedgingPolicy(
+                    upstream.getReplicas(),
+                    new HedgeBudget(upstream.getHedgeBudgetPercent()),
+                    latencies,
+                    hedgeExecutor
+            );
+        }
+    }
+
+    /**
+     * Queues the call in its request class's lane and runs it once the upstream has capacity.
+     * The returned future fails with {@link RejectedExecutionException} when that lane's
+     * queue is full.
+     */
+    public <T> CompletableFuture<T> submit(RequestClass requestClass, Supplier<T> call) {
+        int lane = requestClass.ordinal();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = call.get();
+            } catch (Throwable e) {
+                failure = e;
+            }
+            // Free the slot before waking the caller, so it never observes the slot as held.
+            release(lane);
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        };
+
+        synchronized (this) {
+            Deque<PendingCall> queue = pending.get(lane);
+            if (queue.size() >= queueCapacity) {
+                future.completeExceptionally(new RejectedExecutionException(
+                        "Bulkhead queue full for " + name + " (" + requestClass + ")"));
+                return future;
+            }
+            if (queue.isEmpty()) {
+                // A lane returning from idle must not spend credit it built up while idle.
+                pass[lane] = Math.max(pass[lane], virtualTime);
+            }
+            queue.addLast(new PendingCall(lane, task, future));
+        }
+        dispatch();
+        return future;
+    }
+
+    /**
+     * Records the outcome of a single attempt against this upstream.
+     */
+    public void onSample(long latencyNanos, boolean overloaded) {
+        int current;
+        synchronized (this) {
+            current = inFlight;
+        }
+        limit.onSample(latencyNanos, overloaded, current);
+        if (!overloaded) {
+            latencies.record(latencyNanos);
+        }
+        dispatch();
+    }
+
+    /**
+     * Returns the hedging policy for this upstream, or {@code null} when it has no replicas.
+     */
+    public HedgingPolicy getHedging() {
+        return hedging;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Whether the upstream filters by {@code from}/{@code to} itself.
+     */
+    public boolean supportsTimeRange() {
+        return supportsTimeRange;
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getInFlight(RequestClass requestClass) {
+        return laneInFlight[requestClass.ordinal()];
+    }
+
+    public synchronized int getQueueDepth() {
+        int depth = 0;
+        for (Deque<PendingCall> queue : pending) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    public void shutdown() {
+        List<PendingCall> abandoned = new ArrayList<>();
+        synchronized (this) {
+            for (Deque<PendingCall> queue : pending) {
+                abandoned.addAll(queue);
+                queue.clear();
+            }
+        }
+        abandoned.forEach(call -> call.future().completeExceptionally(
+                new RejectedExecutionException("Bulkhead shut down for " + name)));
+
+        executor.shutdown();
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdown();
+        }
+    }
+
+    private void release(int lane) {
+        synchronized (this) {
+            inFlight--;
+            laneInFlight[lane]--;
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (true) {
+            PendingCall next;
+            synchronized (this) {
+                int currentLimit = limit.getLimit();
+                if (inFlight >= currentLimit) {
+                    return;
+                }
+                int lane = nextLane(currentLimit);
+                if (lane < 0) {
+                    return;
+                }
+                next = pending.get(lane).pollFirst();
+                virtualTime = Math.max(virtualTime, pass[lane]);
+                pass[lane] += 1.0 / weights[lane];
+                inFlight++;
+                laneInFlight[lane]++;
+            }
+            try {
+                executor.execute(next.task());
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    inFlight--;
+                    laneInFlight[next.lane()]--;
+                }
+                next.future().completeExceptionally(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the backlogged lane with the lowest pass that is still under its cap, or
+     * {@code -1} if there is none. Ties go to the lane declared first in {@link RequestClass}.
+     */
+    private int nextLane(int currentLimit) {
+        int best = -1;
+        for (int lane = 0; lane < pass.length; lane++) {
+            int cap = Math.max(1, (int) (currentLimit * maxShares[lane]));
+            if (pending.get(lane).isEmpty() || laneInFlight[lane] >= cap) {
+                continue;
+            }
+            if (best < 0 || pass[lane] < pass[best]) {
+                best = lane;
+            }
+        }
+        return best;
+    }
+
+    private record PendingCall(int lane, Runnable task, CompletableFuture<?> future) {
+    }
+}
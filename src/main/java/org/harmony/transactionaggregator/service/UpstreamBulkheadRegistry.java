@@ -0,0 +1,40 @@
+package org.harmony.transactionaggregator.service;
+
+import jakarta.annotation.PreDestroy;
+import org.harmony.transactionaggregator.configuration.AggregatorProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+public class UpstreamBulkheadRegistry {
+
+    private final AggregatorProperties properties;
+    private final ConcurrentMap<String, UpstreamBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UpstreamBulkheadRegistry(AggregatorProperties properties) {
+        this.properties = properties;
+    }
+
+    public UpstreamBulkhead bulkheadFor(String baseUrl) {
+        return bulkheads.computeIfAbsent(baseUrl,
+                url -> new UpstreamBulkhead(properties.upstreamFor(url), properties.lanes()));
+    }
+
+    public Optional<HedgingPolicy> hedgingFor(String baseUrl) {
+        return Optional.ofNullable(bulkheadFor(baseUrl).getHedging());
+    }
+
+    public void recordAttempt(String baseUrl, long latencyNanos, boolean overloaded) {
+        bulkheadFor(baseUrl).onSample(latencyNanos, overloaded);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(UpstreamBulkhead::shutdown);
+    }
+}
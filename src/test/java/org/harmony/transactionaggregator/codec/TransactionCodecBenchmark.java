@@ -0,0 +1,81 @@
+package org.harmony.transactionaggregator.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.harmony.transactionaggregator.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * Compares payload size and encode/decode time of the binary format against Jackson for a
+ * reverse-chronological account history. Run with {@code ./gradlew codecBenchmark}.
+ */
+public class TransactionCodecBenchmark {
+
+    private static final int[] SIZES = {100, 1_000, 10_000};
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 200;
+
+    private static final TypeReference<List<Transaction>> TRANSACTION_LIST = new TypeReference<>() {};
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        System.out.printf("%8s  %12s %12s  %10s %10s  %10s %10s%n",
+                "records", "json bytes", "binary bytes",
+                "json enc", "bin enc", "json dec", "bin dec");
+
+        for (int size : SIZES) {
+            List<Transaction> transactions = sampleHistory(size);
+            byte[] json = mapper.writeValueAsBytes(transactions);
+            byte[] binary = TransactionEncoder.encode(transactions);
+
+            double jsonEncode = averageMicros(() -> mapper.writeValueAsBytes(transactions));
+            double binaryEncode = averageMicros(() -> TransactionEncoder.encode(transactions));
+            double jsonDecode = averageMicros(() -> mapper.readValue(json, TRANSACTION_LIST));
+            double binaryDecode = averageMicros(() -> TransactionDecoder.decode(binary));
+
+            System.out.printf("%8d  %12d %12d  %8.1fus %8.1fus  %8.1fus %8.1fus%n",
+                    size, json.length, binary.length,
+                    jsonEncode, binaryEncode, jsonDecode, binaryDecode);
+        }
+    }
+
+    private static List<Transaction> sampleHistory(int size) {
+        Random random = new Random(42);
+        LocalDateTime time = LocalDateTime.of(2025, 2, 15, 18, 0);
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            time = time.minusSeconds(random.nextInt(6 * 3600));
+            transactions.add(new Transaction(
+                    "txn-" + (100_000 + i),
+                    "server-" + (1 + random.nextInt(2)),
+                    "ACC-001",
+                    String.format("%d.%02d", random.nextInt(5_000), random.nextInt(100)),
+                    DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time)
+            ));
+        }
+        return transactions;
+    }
+
+    private static double averageMicros(Callable<?> task) throws Exception {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink = task.call();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink = task.call();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) {
+            throw new IllegalStateException("Benchmark produced no result");
+        }
+        return elapsed / 1_000.0 / MEASURED_ROUNDS;
+    }
+}
@@ -0,0 +1,95 @@
+package org.harmony.transactionaggregator.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.harmony.transactionaggregator.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionCodecTest {
+
+    private static List<Transaction> roundTrip(List<Transaction> transactions) {
+        return TransactionDecoder.decode(TransactionEncoder.encode(transactions));
+    }
+
+    @Test
+    @DisplayName("Should round-trip every field exactly")
+    void shouldRoundTripAllFields() {
+        List<Transaction> transactions = List.of(
+                new Transaction("txn-2", "server-1", "ACC-001", "250.00", "2025-02-15T14:30:00"),
+                new Transaction("txn-1", "server-2", "ACC-001", "89.99", "2025-02-14T09:15:00"),
+                new Transaction("txn-0", "server-1", "ACC-002", "-12.50", "2025-02-14T09:15:00.25")
+        );
+
+        assertThat(roundTrip(transactions))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(transactions);
+    }
+
+    @Test
+    @DisplayName("Should preserve nulls and non-canonical timestamps verbatim")
+    void shouldPreserveNullsAndRawTimestamps() {
+        List<Transaction> transactions = List.of(
+                new Transaction(),
+                new Transaction("txn-1", "server-1", "ACC-001", "1.00", "2025-02-14T09:15"),
+                new Transaction("txn-2", "server-1", "ACC-001", "1.00", "not-a-timestamp"),
+                new Transaction("txn-3", "server-1", "ACC-001", "1.00", "2025-02-30T00:00:00"),
+                new Transaction("txn-\u00e9", "server-1", "ACC-001", "1.00", "+10000-01-01T00:00:00")
+        );
+
+        assertThat(roundTrip(transactions))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(transactions);
+    }
+
+    @Test
+    @DisplayName("Should round-trip an empty list")
+    void shouldRoundTripEmptyList() {
+        assertThat(roundTrip(List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should be substantially smaller than JSON")
+    void shouldBeSmallerThanJson() throws Exception {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            transactions.add(new Transaction("txn-" + i, "server-" + (i % 2), "ACC-001",
+                    String.valueOf(i * 3 % 1000) + ".00",
+                    String.format("2025-02-%02dT%02d:%02d:00", 28 - i / 40, 23 - i % 24, i % 60)));
+        }
+
+        byte[] binary = TransactionEncoder.encode(transactions);
+        byte[] json = new ObjectMapper().writeValueAsBytes(transactions);
+
+        assertThat(binary.length).isLessThan(json.length / 3);
+    }
+
+    @Test
+    @DisplayName("Should reject payloads with the wrong magic or version")
+    void shouldRejectForeignPayloads() {
+        assertThatThrownBy(() -> TransactionDecoder.decode("[]".getBytes()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TransactionDecoder.decode(new byte[]{'H', 'T', 'X', 99}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+    }
+
+    @Test
+    @DisplayName("Should reject truncated payloads")
+    void shouldRejectTruncatedPayloads() {
+        byte[] payload = TransactionEncoder.encode(List.of(
+                new Transaction("txn-1", "server-1", "ACC-001", "1.00", "2025-02-14T09:15:00")));
+
+        for (int length = 0; length < payload.length; length++) {
+            byte[] truncated = Arrays.copyOf(payload, length);
+            assertThatThrownBy(() -> TransactionDecoder.decode(truncated))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
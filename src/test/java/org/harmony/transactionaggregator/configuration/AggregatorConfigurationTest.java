@@ -1,5 +1,6 @@
 package org.harmony.transactionaggregator.configuration;
 
+import org.harmony.transactionaggregator.service.UpstreamBulkheadRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,8 +8,6 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cache.CacheManager;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.concurrent.Executor;
-
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
@@ -21,7 +20,7 @@ class AggregatorConfigurationTest {
     private CacheManager cacheManager;
 
     @Autowired
-    private Executor taskExecutor;
+    private UpstreamBulkheadRegistry bulkheads;
 
     @Test
     @DisplayName("RestTemplate bean should be loaded")
@@ -37,8 +36,9 @@ class AggregatorConfigurationTest {
     }
 
     @Test
-    @DisplayName("TaskExecutor bean should be loaded")
-    void taskExecutorBeanShouldBeLoaded() {
-        assertThat(taskExecutor).isNotNull();
+    @DisplayName("Bulkhead registry should build bulkheads from configured upstreams")
+    void bulkheadRegistryShouldUseConfiguredUpstreams() {
+        assertThat(bulkheads.bulkheadFor("http://localhost:8888").getName()).isEqualTo("bank-a");
+        assertThat(bulkheads.bulkheadFor("http://localhost:8889").getName()).isEqualTo("bank-b");
     }
 }
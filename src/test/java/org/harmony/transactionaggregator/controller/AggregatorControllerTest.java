@@ -1,20 +1,32 @@
 package org.harmony.transactionaggregator.controller;
 
+import org.harmony.transactionaggregator.codec.TransactionDecoder;
+import org.harmony.transactionaggregator.codec.TransactionWireFormat;
+import org.harmony.transactionaggregator.model.RequestClass;
 import org.harmony.transactionaggregator.model.Transaction;
 import org.harmony.transactionaggregator.service.AsyncService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,7 +51,7 @@ class AggregatorControllerTest {
                 new Transaction("txn-3", "server-2", "ACC-001", "50.00", "2025-02-14T10:00:00")
         );
 
-        when(asyncService.fetchAsync(anyString(), anyString()))
+        when(asyncService.fetchAsync(anyString(), anyString(), any(), any(), any()))
                 .thenReturn(CompletableFuture.completedFuture(server1))
                 .thenReturn(CompletableFuture.completedFuture(server2));
 
@@ -54,7 +66,7 @@ class AggregatorControllerTest {
     @Test
     @DisplayName("Should return empty list when both services return no data")
     void shouldReturnEmptyWhenNoTransactions() throws Exception {
-        when(asyncService.fetchAsync(anyString(), anyString()))
+        when(asyncService.fetchAsync(anyString(), anyString(), any(), any(), any()))
                 .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
 
         mockMvc.perform(get("/aggregate").param("account", "ACC-001"))
@@ -69,7 +81,7 @@ class AggregatorControllerTest {
                 new Transaction("txn-1", "server-1", "ACC-001", "300.00", "2025-02-15T14:00:00")
         );
 
-        when(asyncService.fetchAsync(anyString(), anyString()))
+        when(asyncService.fetchAsync(anyString(), anyString(), any(), any(), any()))
                 .thenReturn(CompletableFuture.completedFuture(server1))
                 .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
 
@@ -85,4 +97,109 @@ class AggregatorControllerTest {
         mockMvc.perform(get("/aggregate"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("Should pass the requested time range to every upstream fetch")
+    void shouldPassTimeRange() throws Exception {
+        when(asyncService.fetchAsync(anyString(), anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+        mockMvc.perform(get("/aggregate")
+                        .param("account", "ACC-001")
+                        .param("from", "2025-02-08T00:00:00")
+                        .param("to", "2025-02-15T00:00:00"))
+                .andExpect(status().isOk());
+
+        verify(asyncService, times(2)).fetchAsync(anyString(), eq("ACC-001"),
+                eq(LocalDateTime.parse("2025-02-08T00:00:00")),
+                eq(LocalDateTime.parse("2025-02-15T00:00:00")), eq(RequestClass.INTERACTIVE));
+    }
+
+    @Test
+    @DisplayName("Should leave the range open when from and to are omitted")
+    void shouldDefaultToOpenRange() throws Exception {
+        when(asyncService.fetchAsync(anyString(), anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+        mockMvc.perform(get("/aggregate").param("account", "ACC-001"))
+                .andExpect(status().isOk());
+
+        verify(asyncService, times(2)).fetchAsync(anyString(), eq("ACC-001"), isNull(), isNull(), eq(RequestClass.INTERACTIVE));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when from is after to")
+    void shouldReturn400WhenRangeInverted() throws Exception {
+        mockMvc.perform(get("/aggregate")
+                        .param("account", "ACC-001")
+                        .param("from", "2025-02-15T00:00:00")
+                        .param("to", "2025-02-08T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return the binary encoding when the client asks for it")
+    void shouldNegotiateBinaryEncoding() throws Exception {
+        List<Transaction> server1 = List.of(
+                new Transaction("txn-1", "server-1", "ACC-001", "100.00", "2025-02-13T08:00:00")
+        );
+        List<Transaction> server2 = List.of(
+                new Transaction("txn-2", "server-2", "ACC-001", "50.00", "2025-02-14T10:00:00")
+        );
+        when(asyncService.fetchAsync(anyString(), anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(server1))
+                .thenReturn(CompletableFuture.completedFuture(server2));
+
+        MvcResult result = mockMvc.perform(get("/aggregate")
+                        .param("account", "ACC-001")
+                        .accept(TransactionWireFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TransactionWireFormat.MEDIA_TYPE))
+                .andReturn();
+
+        List<Transaction> decoded = TransactionDecoder.decode(result.getResponse().getContentAsByteArray());
+        assertThat(decoded).extracting(Transaction::getId).containsExactly("txn-2", "txn-1");
+    }
+
+    @Test
+    @DisplayName("Should keep JSON as the default for wildcard Accept headers")
+    void shouldDefaultToJson() throws Exception {
+        when(asyncService.fetchAsync(anyString(), anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+        mockMvc.perform(get("/aggregate").param("account", "ACC-001").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Should schedule requests marked as bulk in the bulk lane")
+    void shouldHonourRequestClassHeader() throws Exception {
+        when(asyncService.fetchAsync(anyString(), anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+        mockMvc.perform(get("/aggregate").param("account", "ACC-001").header(RequestClass.HEADER, "bulk"))
+                .andExpect(status().isOk());
+
+        verify(asyncService, times(2)).fetchAsync(anyString(), eq("ACC-001"), isNull(), isNull(), eq(RequestClass.BULK));
+    }
+
+    @Test
+    @DisplayName("Should always schedule the export endpoint as bulk")
+    void shouldScheduleExportAsBulk() throws Exception {
+        when(asyncService.fetchAsync(anyString(), anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+        mockMvc.perform(get("/aggregate/export").param("account", "ACC-001"))
+                .andExpect(status().isOk());
+
+        verify(asyncService, times(2)).fetchAsync(anyString(), eq("ACC-001"), isNull(), isNull(), eq(RequestClass.BULK));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for an unknown request class")
+    void shouldReturn400ForUnknownRequestClass() throws Exception {
+        mockMvc.perform(get("/aggregate").param("account", "ACC-001").header(RequestClass.HEADER, "urgent"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,98 @@
+package org.harmony.transactionaggregator.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionHistoryTest {
+
+    private TransactionHistory sampleHistory() {
+        return TransactionHistory.of(List.of(
+                new Transaction("txn-2", "server-1", "ACC-001", "20.00", "2025-02-10T10:00:00"),
+                new Transaction("txn-4", "server-1", "ACC-001", "40.00", "2025-02-20T10:00:00"),
+                new Transaction("txn-x", "server-1", "ACC-001", "99.00", "not-a-timestamp"),
+                new Transaction("txn-1", "server-1", "ACC-001", "10.00", "2025-02-01T10:00:00"),
+                new Transaction("txn-3", "server-1", "ACC-001", "30.00", "2025-02-15T00:00:00")
+        ));
+    }
+
+    private static List<String> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Should order transactions newest first with unparseable timestamps last")
+    void shouldSortNewestFirst() {
+        assertThat(ids(sampleHistory().all()))
+                .containsExactly("txn-4", "txn-3", "txn-2", "txn-1", "txn-x");
+    }
+
+    @Test
+    @DisplayName("Should return transactions within an inclusive range")
+    void shouldReturnInclusiveRange() {
+        List<Transaction> result = sampleHistory().between(
+                LocalDateTime.parse("2025-02-10T10:00:00"),
+                LocalDateTime.parse("2025-02-15T00:00:00"));
+
+        assertThat(ids(result)).containsExactly("txn-3", "txn-2");
+    }
+
+    @Test
+    @DisplayName("Should support open-ended ranges")
+    void shouldSupportOpenEndedRanges() {
+        TransactionHistory history = sampleHistory();
+
+        assertThat(ids(history.between(LocalDateTime.parse("2025-02-12T00:00:00"), null)))
+                .containsExactly("txn-4", "txn-3");
+        assertThat(ids(history.between(null, LocalDateTime.parse("2025-02-12T00:00:00"))))
+                .containsExactly("txn-2", "txn-1");
+        assertThat(history.between(null, null)).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("Should return an empty list when nothing falls in the range")
+    void shouldReturnEmptyForDisjointRange() {
+        TransactionHistory history = sampleHistory();
+
+        assertThat(history.between(
+                LocalDateTime.parse("2025-03-01T00:00:00"),
+                LocalDateTime.parse("2025-03-31T00:00:00"))).isEmpty();
+        assertThat(TransactionHistory.of(List.of()).between(
+                LocalDateTime.parse("2025-02-01T00:00:00"), null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should honour sub-second timestamps and bounds")
+    void shouldHonourSubSecondPrecision() {
+        TransactionHistory history = TransactionHistory.of(List.of(
+                new Transaction("txn-a", "server-1", "ACC-001", "10.00", "2025-02-10T10:00:00.100"),
+                new Transaction("txn-c", "server-1", "ACC-001", "30.00", "2025-02-10T10:00:00.900"),
+                new Transaction("txn-b", "server-1", "ACC-001", "20.00", "2025-02-10T10:00:00.500")
+        ));
+
+        assertThat(ids(history.all())).containsExactly("txn-c", "txn-b", "txn-a");
+        assertThat(ids(history.between(
+                LocalDateTime.parse("2025-02-10T10:00:00.200"),
+                LocalDateTime.parse("2025-02-10T10:00:00.500"))))
+                .containsExactly("txn-b");
+        assertThat(ids(history.between(LocalDateTime.parse("2025-02-10T10:00:00.500000001"), null)))
+                .containsExactly("txn-c");
+        assertThat(ids(history.between(null, LocalDateTime.parse("2025-02-10T10:00:00"))))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should exclude a whole-second transaction from a range ending just before it")
+    void shouldCompareBoundsAtFullPrecision() {
+        TransactionHistory history = sampleHistory();
+
+        assertThat(ids(history.between(
+                LocalDateTime.parse("2025-02-10T10:00:00.000000001"),
+                LocalDateTime.parse("2025-02-14T23:59:59.999"))))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,88 @@
+package org.harmony.transactionaggregator.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private AdaptiveConcurrencyLimit newLimit(int initial) {
+        return new AdaptiveConcurrencyLimit(initial, 1, 16, Duration.ofMillis(500), 0.5);
+    }
+
+    @Test
+    @DisplayName("Should grow additively on fast responses while the limit is in use")
+    void shouldGrowAdditively() {
+        AdaptiveConcurrencyLimit limit = newLimit(4);
+
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(FAST, false, 4);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should not grow while the upstream is mostly idle")
+    void shouldNotGrowWhenIdle() {
+        AdaptiveConcurrencyLimit limit = newLimit(4);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(FAST, false, 1);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should back off multiplicatively on 503/529 overload")
+    void shouldBackOffOnOverload() {
+        AdaptiveConcurrencyLimit limit = newLimit(8);
+
+        limit.onSample(FAST, true, 8);
+
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should back off when latency exceeds the threshold")
+    void shouldBackOffOnSlowResponse() {
+        AdaptiveConcurrencyLimit limit = newLimit(8);
+
+        limit.onSample(SLOW, false, 8);
+
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should stay within configured bounds")
+    void shouldStayWithinBounds() {
+        AdaptiveConcurrencyLimit limit = newLimit(2);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(FAST, true, 2);
+        }
+        assertThat(limit.getLimit()).isEqualTo(1);
+
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(FAST, false, 16);
+        }
+        assertThat(limit.getLimit()).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid bounds")
+    void shouldRejectInvalidBounds() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(4, 0, 8, Duration.ofMillis(500), 0.9))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(4, 1, 8, Duration.ofMillis(500), 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,16 +1,23 @@
 package org.harmony.transactionaggregator.service;
 
+import org.harmony.transactionaggregator.configuration.AggregatorProperties;
+import org.harmony.transactionaggregator.model.RequestClass;
 import org.harmony.transactionaggregator.model.Transaction;
+import org.harmony.transactionaggregator.model.TransactionHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -21,9 +28,30 @@ class AsyncServiceTest {
     @Mock
     private TransactionService transactionService;
 
-    @InjectMocks
+    private UpstreamBulkheadRegistry bulkheads;
+
     private AsyncService asyncService;
 
+    private static final String CACHED_URL = "http://localhost:8888";
+    private static final String RANGE_URL = "http://localhost:8889";
+
+    @BeforeEach
+    void setUp() {
+        AggregatorProperties.Upstream rangeAware = new AggregatorProperties.Upstream();
+        rangeAware.setBaseUrl(RANGE_URL);
+        rangeAware.setSupportsTimeRange(true);
+        AggregatorProperties properties = new AggregatorProperties();
+        properties.setUpstreams(List.of(rangeAware));
+
+        bulkheads = new UpstreamBulkheadRegistry(properties);
+        asyncService = new AsyncService(transactionService, bulkheads);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkheads.shutdown();
+    }
+
     @Test
     @DisplayName("Should delegate fetch to TransactionService and return CompletableFuture")
     void shouldDelegateToTransactionService() throws Exception {
@@ -31,26 +59,115 @@ class AsyncServiceTest {
                 new Transaction("txn-1", "server-1", "ACC-001", "100.00", "2025-02-15T10:00:00")
         );
 
-        when(transactionService.fetchTransactions("http://localhost:8888", "ACC-001"))
-                .thenReturn(expected);
+        when(transactionService.fetchHistory("http://localhost:8888", "ACC-001", RequestClass.INTERACTIVE))
+                .thenReturn(TransactionHistory.of(expected));
 
         CompletableFuture<List<Transaction>> result =
-                asyncService.fetchAsync("http://localhost:8888", "ACC-001");
+                asyncService.fetchAsync("http://localhost:8888", "ACC-001", null, null, RequestClass.INTERACTIVE);
 
         assertThat(result.get()).hasSize(1);
         assertThat(result.get().get(0).getId()).isEqualTo("txn-1");
-        verify(transactionService, times(1)).fetchTransactions("http://localhost:8888", "ACC-001");
+        verify(transactionService, times(1)).fetchHistory("http://localhost:8888", "ACC-001", RequestClass.INTERACTIVE);
     }
 
     @Test
     @DisplayName("Should return empty list in future when service returns empty")
     void shouldReturnEmptyFuture() throws Exception {
-        when(transactionService.fetchTransactions(anyString(), anyString()))
-                .thenReturn(Collections.emptyList());
+        when(transactionService.fetchHistory(anyString(), anyString(), any()))
+                .thenReturn(TransactionHistory.of(Collections.emptyList()));
 
         CompletableFuture<List<Transaction>> result =
-                asyncService.fetchAsync("http://localhost:8889", "ACC-002");
+                asyncService.fetchAsync("http://localhost:8889", "ACC-002", null, null, RequestClass.INTERACTIVE);
 
         assertThat(result.get()).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should return empty list in future when service throws")
+    void shouldReturnEmptyFutureOnFailure() throws Exception {
+        when(transactionService.fetchHistory(anyString(), anyString(), any()))
+                .thenThrow(new IllegalStateException("boom"));
+
+        CompletableFuture<List<Transaction>> result =
+                asyncService.fetchAsync("http://localhost:8888", "ACC-001", null, null, RequestClass.INTERACTIVE);
+
+        assertThat(result.get()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should filter the cached history when the upstream has no range support")
+    void shouldFilterCachedHistory() throws Exception {
+        when(transactionService.fetchHistory(CACHED_URL, "ACC-001", RequestClass.INTERACTIVE))
+                .thenReturn(TransactionHistory.of(List.of(
+                        new Transaction("txn-1", "server-1", "ACC-001", "10.00", "2025-02-01T10:00:00"),
+                        new Transaction("txn-2", "server-1", "ACC-001", "20.00", "2025-02-10T10:00:00"),
+                        new Transaction("txn-3", "server-1", "ACC-001", "30.00", "2025-02-20T10:00:00")
+                )));
+
+        List<Transaction> result = asyncService.fetchAsync(CACHED_URL, "ACC-001",
+                LocalDateTime.parse("2025-02-05T00:00:00"),
+                LocalDateTime.parse("2025-02-15T00:00:00"), RequestClass.INTERACTIVE).get();
+
+        assertThat(result).extracting(Transaction::getId).containsExactly("txn-2");
+        verify(transactionService, never()).fetchTransactions(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should push the range down to upstreams that support it")
+    void shouldPushDownRange() throws Exception {
+        LocalDateTime from = LocalDateTime.parse("2025-02-05T00:00:00");
+        LocalDateTime to = LocalDateTime.parse("2025-02-15T00:00:00");
+        List<Transaction> expected = List.of(
+                new Transaction("txn-2", "server-2", "ACC-001", "20.00", "2025-02-10T10:00:00")
+        );
+        when(transactionService.fetchTransactions(RANGE_URL, "ACC-001", from, to)).thenReturn(expected);
+
+        List<Transaction> result = asyncService.fetchAsync(RANGE_URL, "ACC-001", from, to, RequestClass.INTERACTIVE).get();
+
+        assertThat(result).isEqualTo(expected);
+        verify(transactionService, never()).fetchHistory(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should pass the request class through to the cached history lookup")
+    void shouldPassRequestClass() throws Exception {
+        when(transactionService.fetchHistory(CACHED_URL, "ACC-001", RequestClass.BULK))
+                .thenReturn(TransactionHistory.of(Collections.emptyList()));
+
+        List<Transaction> result =
+                asyncService.fetchAsync(CACHED_URL, "ACC-001", null, null, RequestClass.BULK).get();
+
+        assertThat(result).isEmpty();
+        verify(transactionService).fetchHistory(CACHED_URL, "ACC-001", RequestClass.BULK);
+    }
+
+    @Test
+    @DisplayName("Should answer cache hits without waiting for the bulkhead")
+    void shouldServeCacheHitsOutsideBulkhead() throws Exception {
+        UpstreamBulkhead bulkhead = bulkheads.bulkheadFor(CACHED_URL);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < bulkhead.getLimit() + 1; i++) {
+            bulkhead.submit(RequestClass.INTERACTIVE, () -> {
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            });
+        }
+        when(transactionService.cachedHistory(CACHED_URL, "ACC-001"))
+                .thenReturn(TransactionHistory.of(List.of(
+                        new Transaction("txn-1", "server-1", "ACC-001", "10.00", "2025-02-01T10:00:00")
+                )));
+
+        CompletableFuture<List<Transaction>> result =
+                asyncService.fetchAsync(CACHED_URL, "ACC-001", null, null, RequestClass.INTERACTIVE);
+
+        assertThat(result).isDone();
+        assertThat(result.get()).extracting(Transaction::getId).containsExactly("txn-1");
+        assertThat(bulkhead.getQueueDepth()).isEqualTo(1);
+        verify(transactionService, never()).fetchHistory(anyString(), anyString(), any());
+        release.countDown();
+    }
 }
@@ -0,0 +1,228 @@
+package org.harmony.transactionaggregator.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingPolicyTest {
+
+    private static final String PRIMARY = "http://primary";
+    private static final String REPLICA = "http://replica";
+
+    private static final HedgingPolicy.AttemptListener IGNORE = (latencyNanos, failure) -> { };
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private HedgingPolicy newPolicy(double budgetPercent, boolean warm) {
+        LatencyTracker latencies = new LatencyTracker(16, 1);
+        if (warm) {
+            latencies.record(Duration.ofMillis(50).toNanos());
+        }
+        return new HedgingPolicy(List.of(REPLICA), new HedgeBudget(budgetPercent), latencies, executor);
+    }
+
+    @Test
+    @DisplayName("Should not hedge before any latency has been observed")
+    void shouldNotHedgeWithoutLatencyData() {
+        HedgingPolicy policy = newPolicy(100, false);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy.execute(PRIMARY, url -> {
+            calls.incrementAndGet();
+            return url;
+        }, IGNORE);
+
+        assertThat(result).isEqualTo(PRIMARY);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return the replica response and cancel a slow primary")
+    void shouldHedgeSlowPrimary() throws Exception {
+        HedgingPolicy policy = newPolicy(100, true);
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+
+        String result = policy.execute(PRIMARY, url -> {
+            if (url.equals(PRIMARY)) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    primaryCancelled.countDown();
+                }
+            }
+            return url;
+        }, IGNORE);
+
+        assertThat(result).isEqualTo(REPLICA);
+        assertThat(primaryCancelled.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should wait for the primary when the hedge budget is exhausted")
+    void shouldRespectHedgeBudget() {
+        HedgingPolicy policy = newPolicy(0, true);
+        AtomicInteger replicaCalls = new AtomicInteger();
+
+        String result = policy.execute(PRIMARY, url -> {
+            if (url.equals(REPLICA)) {
+                replicaCalls.incrementAndGet();
+            } else {
+                sleep(200);
+            }
+            return url;
+        }, IGNORE);
+
+        assertThat(result).isEqualTo(PRIMARY);
+        assertThat(replicaCalls.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should propagate a fast primary failure without hedging")
+    void shouldNotHedgeFastFailure() {
+        HedgingPolicy policy = newPolicy(100, true);
+        AtomicInteger replicaCalls = new AtomicInteger();
+
+        assertThatThrownBy(() -> policy.execute(PRIMARY, url -> {
+            if (url.equals(REPLICA)) {
+                replicaCalls.incrementAndGet();
+                return url;
+            }
+            throw new IllegalStateException("503");
+        }, IGNORE)).isInstanceOf(IllegalStateException.class).hasMessage("503");
+
+        assertThat(replicaCalls.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the hedge when a slow primary eventually fails")
+    void shouldUseHedgeWhenPrimaryFails() {
+        HedgingPolicy policy = newPolicy(100, true);
+
+        String result = policy.execute(PRIMARY, url -> {
+            if (url.equals(PRIMARY)) {
+                sleep(150);
+                throw new IllegalStateException("503");
+            }
+            sleep(300);
+            return url;
+        }, IGNORE);
+
+        assertThat(result).isEqualTo(REPLICA);
+    }
+
+    @Test
+    @DisplayName("Should report the primary leg's own latency when it runs inline")
+    void shouldReportInlinePrimary() {
+        HedgingPolicy policy = newPolicy(100, false);
+        List<Long> samples = new CopyOnWriteArrayList<>();
+
+        policy.execute(PRIMARY, url -> {
+            sleep(50);
+            return url;
+        }, (latencyNanos, failure) -> {
+            assertThat(failure).isNull();
+            samples.add(latencyNanos);
+        });
+
+        assertThat(samples).singleElement()
+                .satisfies(latency -> assertThat(latency).isGreaterThanOrEqualTo(Duration.ofMillis(50).toNanos()));
+    }
+
+    @Test
+    @DisplayName("Should report an abandoned primary's elapsed time rather than the replica's latency")
+    void shouldReportAbandonedPrimaryAsLowerBound() {
+        HedgingPolicy policy = newPolicy(100, true);
+        List<Long> samples = new CopyOnWriteArrayList<>();
+
+        String result = policy.execute(PRIMARY, url -> {
+            if (url.equals(PRIMARY)) {
+                sleep(5_000);
+                throw new IllegalStateException("cancelled");
+            }
+            return url;
+        }, (latencyNanos, failure) -> {
+            assertThat(failure).isNull();
+            samples.add(latencyNanos);
+        });
+
+        assertThat(result).isEqualTo(REPLICA);
+        assertThat(samples).singleElement()
+                .satisfies(latency -> assertThat(latency).isGreaterThanOrEqualTo(Duration.ofMillis(50).toNanos()));
+    }
+
+    @Test
+    @DisplayName("Should keep the hedge trigger near p95 while slow primaries are being hedged")
+    void shouldNotDriftBelowP95UnderRepeatedHedging() {
+        LatencyTracker latencies = new LatencyTracker(256, 20);
+        for (int i = 0; i < 20; i++) {
+            latencies.record(Duration.ofMillis(i < 2 ? 100 : 5).toNanos());
+        }
+        HedgingPolicy policy = new HedgingPolicy(List.of(REPLICA), new HedgeBudget(100), latencies, executor);
+
+        // One request in ten is slow, so the true p95 is in the slow tail. Had abandoned
+        // primaries gone unrecorded, the window would fill with fast samples only.
+        for (int i = 0; i < 100; i++) {
+            boolean slow = i % 10 == 0;
+            policy.execute(PRIMARY, url -> {
+                if (url.equals(PRIMARY)) {
+                    sleep(slow ? 2_000 : 5);
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IllegalStateException("cancelled");
+                    }
+                }
+                return url;
+            }, (latencyNanos, failure) -> {
+                if (failure == null) {
+                    latencies.record(latencyNanos);
+                }
+            });
+        }
+
+        assertThat(latencies.percentile(0.95))
+                .isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos())
+                .isLessThan(Duration.ofMillis(500).toNanos());
+    }
+
+    @Test
+    @DisplayName("Should report a primary failure but not a replica failure")
+    void shouldReportOnlyPrimaryFailure() {
+        HedgingPolicy policy = newPolicy(100, true);
+        List<RuntimeException> failures = new CopyOnWriteArrayList<>();
+
+        assertThatThrownBy(() -> policy.execute(PRIMARY, url -> {
+            if (url.equals(PRIMARY)) {
+                sleep(150);
+                throw new IllegalStateException("primary 503");
+            }
+            sleep(300);
+            throw new IllegalStateException("replica 503");
+        }, (latencyNanos, failure) -> failures.add(failure))).hasMessage("primary 503");
+
+        assertThat(failures).extracting(Throwable::getMessage).containsExactly("primary 503");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
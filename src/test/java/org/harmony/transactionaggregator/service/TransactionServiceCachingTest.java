@@ -0,0 +1,76 @@
+package org.harmony.transactionaggregator.service;
+
+import org.harmony.transactionaggregator.model.RequestClass;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class TransactionServiceCachingTest {
+
+    private static final String BASE_URL = "http://localhost:8888";
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private void stubUpstream(String account) {
+        when(restTemplate.exchange(
+                eq(BASE_URL + "/transactions?account=" + account),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(ResponseEntity.ok(List.of()));
+    }
+
+    @Test
+    @DisplayName("Interactive requests should admit histories into the cache")
+    void interactiveRequestsShouldPopulateCache() {
+        stubUpstream("ACC-INTERACTIVE");
+
+        transactionService.fetchHistory(BASE_URL, "ACC-INTERACTIVE", RequestClass.INTERACTIVE);
+        transactionService.fetchHistory(BASE_URL, "ACC-INTERACTIVE", RequestClass.INTERACTIVE);
+        transactionService.fetchHistory(BASE_URL, "ACC-INTERACTIVE", RequestClass.BULK);
+
+        verify(restTemplate, times(1)).exchange(anyString(), any(), any(), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    @DisplayName("Bulk requests should not admit histories into the cache")
+    void bulkRequestsShouldNotPopulateCache() {
+        stubUpstream("ACC-BULK");
+
+        transactionService.fetchHistory(BASE_URL, "ACC-BULK", RequestClass.BULK);
+        transactionService.fetchHistory(BASE_URL, "ACC-BULK", RequestClass.BULK);
+        transactionService.fetchHistory(BASE_URL, "ACC-BULK", RequestClass.INTERACTIVE);
+        transactionService.fetchHistory(BASE_URL, "ACC-BULK", RequestClass.INTERACTIVE);
+
+        verify(restTemplate, times(3)).exchange(anyString(), any(), any(), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    @DisplayName("Cached histories should be readable without calling the upstream")
+    void cachedHistoryShouldReadWithoutFetching() {
+        stubUpstream("ACC-LOOKUP");
+
+        assertThat(transactionService.cachedHistory(BASE_URL, "ACC-LOOKUP")).isNull();
+        transactionService.fetchHistory(BASE_URL, "ACC-LOOKUP", RequestClass.INTERACTIVE);
+        assertThat(transactionService.cachedHistory(BASE_URL, "ACC-LOOKUP")).isNotNull();
+
+        verify(restTemplate, times(1)).exchange(anyString(), any(), any(), any(ParameterizedTypeReference.class));
+    }
+}
@@ -1,6 +1,9 @@
 package org.harmony.transactionaggregator.service;
 
+import org.harmony.transactionaggregator.model.RequestClass;
 import org.harmony.transactionaggregator.model.Transaction;
+import org.harmony.transactionaggregator.model.TransactionHistory;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -8,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -19,7 +23,12 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,6 +40,9 @@ class TransactionServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private UpstreamBulkheadRegistry bulkheads;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -80,6 +92,8 @@ class TransactionServiceTest {
             assertThat(result.get(0).getId()).isEqualTo("txn-1");
             assertThat(result.get(1).getAmount()).isEqualTo("250.50");
             verify(restTemplate, times(1)).exchange(anyString(), any(), any(), any(ParameterizedTypeReference.class));
+            verify(bulkheads, times(1)).recordAttempt(eq(BASE_URL), anyLong(), eq(false));
+            verify(bulkheads, never()).recordAttempt(anyString(), anyLong(), eq(true));
         }
 
         @Test
@@ -100,6 +114,46 @@ class TransactionServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Time range scenarios")
+    class TimeRange {
+
+        @Test
+        @DisplayName("Should pass from and to through as query parameters")
+        void shouldPushDownRange() {
+            String rangeUrl = EXPECTED_URL + "&from=2025-02-08T00:00:00&to=2025-02-15T23:59:59";
+            when(restTemplate.exchange(
+                    eq(rangeUrl),
+                    eq(HttpMethod.GET),
+                    isNull(),
+                    any(ParameterizedTypeReference.class)
+            )).thenReturn(ResponseEntity.ok(sampleTransactions()));
+
+            List<Transaction> result = transactionService.fetchTransactions(BASE_URL, ACCOUNT,
+                    LocalDateTime.parse("2025-02-08T00:00"), LocalDateTime.parse("2025-02-15T23:59:59"));
+
+            assertThat(result).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should build a time-indexed history from the full fetch")
+        void shouldBuildHistory() {
+            when(restTemplate.exchange(
+                    eq(EXPECTED_URL),
+                    eq(HttpMethod.GET),
+                    isNull(),
+                    any(ParameterizedTypeReference.class)
+            )).thenReturn(ResponseEntity.ok(sampleTransactions()));
+
+            TransactionHistory history = transactionService.fetchHistory(BASE_URL, ACCOUNT, RequestClass.INTERACTIVE);
+
+            assertThat(history.size()).isEqualTo(2);
+            assertThat(history.between(LocalDateTime.parse("2025-02-15T00:00:00"), null))
+                    .extracting(Transaction::getId)
+                    .containsExactly("txn-1");
+        }
+    }
+
     @Nested
     @DisplayName("Retry logic scenarios")
     class RetryLogic {
@@ -124,6 +178,8 @@ class TransactionServiceTest {
 
             assertThat(result).hasSize(2);
             verify(restTemplate, times(3)).exchange(anyString(), any(), any(), any(ParameterizedTypeReference.class));
+            verify(bulkheads, times(2)).recordAttempt(eq(BASE_URL), anyLong(), eq(true));
+            verify(bulkheads, times(1)).recordAttempt(eq(BASE_URL), anyLong(), eq(false));
         }
 
         @Test
@@ -145,6 +201,8 @@ class TransactionServiceTest {
 
             assertThat(result).hasSize(2);
             verify(restTemplate, times(2)).exchange(anyString(), any(), any(), any(ParameterizedTypeReference.class));
+            verify(bulkheads, times(1)).recordAttempt(eq(BASE_URL), anyLong(), eq(true));
+            verify(bulkheads, times(1)).recordAttempt(eq(BASE_URL), anyLong(), eq(false));
         }
 
         @Test
@@ -167,6 +225,7 @@ class TransactionServiceTest {
 
             assertThat(result).isEmpty();
             verify(restTemplate, times(1)).exchange(anyString(), any(), any(), any(ParameterizedTypeReference.class));
+            verify(bulkheads, never()).recordAttempt(anyString(), anyLong(), anyBoolean());
         }
 
         @Test
@@ -183,6 +242,103 @@ class TransactionServiceTest {
 
             assertThat(result).isEmpty();
             verify(restTemplate, times(5)).exchange(anyString(), any(), any(), any(ParameterizedTypeReference.class));
+            verify(bulkheads, times(5)).recordAttempt(eq(BASE_URL), anyLong(), eq(true));
+            verify(bulkheads, never()).recordAttempt(anyString(), anyLong(), eq(false));
+        }
+    }
+
+    @Nested
+    @DisplayName("Hedged fetch scenarios")
+    class HedgedFetch {
+
+        private static final String REPLICA_URL = "http://localhost:9888";
+        private static final String EXPECTED_REPLICA_URL = REPLICA_URL + "/transactions?account=" + ACCOUNT;
+        private static final Duration HEDGE_DELAY = Duration.ofMillis(50);
+
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+
+        @AfterEach
+        void tearDown() {
+            executor.shutdownNow();
+        }
+
+        private void enableHedging() {
+            LatencyTracker latencies = new LatencyTracker(16, 1);
+            latencies.record(HEDGE_DELAY.toNanos());
+            HedgingPolicy hedging = new HedgingPolicy(List.of(REPLICA_URL), new HedgeBudget(100), latencies, executor);
+            when(bulkheads.hedgingFor(BASE_URL)).thenReturn(Optional.of(hedging));
+        }
+
+        private void stubExchange(String url, Answer<?> answer) {
+            when(restTemplate.exchange(
+                    eq(url),
+                    eq(HttpMethod.GET),
+                    isNull(),
+                    any(ParameterizedTypeReference.class)
+            )).thenAnswer(answer);
+        }
+
+        @Test
+        @DisplayName("Should record a primary 503 as overloaded and retry it")
+        void shouldRecordAndRetryPrimaryOverload() {
+            enableHedging();
+            when(restTemplate.exchange(
+                    eq(EXPECTED_URL),
+                    eq(HttpMethod.GET),
+                    isNull(),
+                    any(ParameterizedTypeReference.class)
+            ))
+                    .thenThrow(serverError(503))
+                    .thenReturn(ResponseEntity.ok(sampleTransactions()));
+
+            List<Transaction> result = transactionService.fetchTransactions(BASE_URL, ACCOUNT);
+
+            assertThat(result).hasSize(2);
+            verify(restTemplate, times(2)).exchange(anyString(), any(), any(), any(ParameterizedTypeReference.class));
+            verify(bulkheads, times(1)).recordAttempt(eq(BASE_URL), anyLong(), eq(true));
+            verify(bulkheads, times(1)).recordAttempt(eq(BASE_URL), anyLong(), eq(false));
+        }
+
+        @Test
+        @DisplayName("Should record the abandoned primary, not the replica, when the hedge wins")
+        void shouldNotRecordReplicaWin() {
+            enableHedging();
+            stubExchange(EXPECTED_URL, invocation -> {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    throw new ResourceAccessException("cancelled");
+                }
+                return ResponseEntity.ok(List.of());
+            });
+            stubExchange(EXPECTED_REPLICA_URL, invocation -> ResponseEntity.ok(sampleTransactions()));
+
+            List<Transaction> result = transactionService.fetchTransactions(BASE_URL, ACCOUNT);
+
+            assertThat(result).hasSize(2);
+            verify(bulkheads, times(1)).recordAttempt(
+                    eq(BASE_URL), longThat(latency -> latency >= HEDGE_DELAY.toNanos()), eq(false));
+            verify(bulkheads, never()).recordAttempt(anyString(), anyLong(), eq(true));
+        }
+
+        @Test
+        @DisplayName("Should not record a replica failure against the primary")
+        void shouldNotRecordReplicaFailure() {
+            enableHedging();
+            stubExchange(EXPECTED_URL, invocation -> {
+                Thread.sleep(150);
+                return ResponseEntity.ok(sampleTransactions());
+            });
+            stubExchange(EXPECTED_REPLICA_URL, invocation -> {
+                throw serverError(503);
+            });
+
+            List<Transaction> result = transactionService.fetchTransactions(BASE_URL, ACCOUNT);
+
+            assertThat(result).hasSize(2);
+            verify(restTemplate, times(1)).exchange(eq(EXPECTED_REPLICA_URL), any(), any(), any(ParameterizedTypeReference.class));
+            verify(bulkheads, times(1)).recordAttempt(eq(BASE_URL), anyLong(), eq(false));
+            verify(bulkheads, never()).recordAttempt(anyString(), anyLong(), eq(true));
         }
     }
 
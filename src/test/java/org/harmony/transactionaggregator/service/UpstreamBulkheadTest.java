@@ -0,0 +1,200 @@
+package org.harmony.transactionaggregator.service;
+
+import org.harmony.transactionaggregator.configuration.AggregatorProperties;
+import org.harmony.transactionaggregator.model.RequestClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamBulkheadTest {
+
+    private final List<UpstreamBulkhead> bulkheads = new ArrayList<>();
+
+    private UpstreamBulkhead newBulkhead(String name, int limit, int queueCapacity) {
+        return newBulkhead(name, limit, queueCapacity, new AggregatorProperties().lanes());
+    }
+
+    private UpstreamBulkhead newBulkhead(String name, int limit, int queueCapacity,
+                                         Map<RequestClass, AggregatorProperties.Lane> lanes) {
+        AggregatorProperties.Upstream upstream = new AggregatorProperties.Upstream();
+        upstream.setName(name);
+        upstream.setInitialLimit(limit);
+        upstream.setMaxLimit(limit);
+        upstream.setQueueCapacity(queueCapacity);
+        UpstreamBulkhead bulkhead = new UpstreamBulkhead(upstream, lanes);
+        bulkheads.add(bulkhead);
+        return bulkhead;
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkheads.forEach(UpstreamBulkhead::shutdown);
+    }
+
+    @Test
+    @DisplayName("Should never run more calls than the current limit")
+    void shouldRespectConcurrencyLimit() throws Exception {
+        UpstreamBulkhead bulkhead = newBulkhead("bank-a", 2, 100);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(bulkhead.submit(RequestClass.INTERACTIVE, () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(5);
+                running.decrementAndGet();
+                return 1;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertThat(peak.get()).isLessThanOrEqualTo(2);
+        assertThat(bulkhead.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject calls once the upstream's queue is full")
+    void shouldRejectWhenQueueFull() throws Exception {
+        UpstreamBulkhead bulkhead = newBulkhead("bank-a", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> running = bulkhead.submit(RequestClass.INTERACTIVE, () -> await(release));
+        CompletableFuture<Integer> queued = bulkhead.submit(RequestClass.INTERACTIVE, () -> 2);
+        CompletableFuture<Integer> rejected = bulkhead.submit(RequestClass.INTERACTIVE, () -> 3);
+
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A saturated upstream should not delay calls to another upstream")
+    void shouldIsolateUpstreams() throws Exception {
+        UpstreamBulkhead slow = newBulkhead("bank-a", 2, 100);
+        UpstreamBulkhead fast = newBulkhead("bank-b", 2, 100);
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int i = 0; i < 10; i++) {
+            slow.submit(RequestClass.INTERACTIVE, () -> await(release));
+        }
+
+        assertThat(fast.submit(RequestClass.INTERACTIVE, () -> 42).get(1, TimeUnit.SECONDS)).isEqualTo(42);
+        assertThat(slow.getQueueDepth()).isEqualTo(8);
+
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should share dispatches between backlogged lanes by weight")
+    void shouldShareDispatchesByWeight() throws Exception {
+        AggregatorProperties properties = new AggregatorProperties();
+        properties.setInteractiveLane(new AggregatorProperties.Lane(3, 1.0));
+        properties.setBulkLane(new AggregatorProperties.Lane(1, 1.0));
+        UpstreamBulkhead bulkhead = newBulkhead("bank-a", 1, 100, properties.lanes());
+        CountDownLatch release = new CountDownLatch(1);
+        List<RequestClass> order = Collections.synchronizedList(new ArrayList<>());
+
+        bulkhead.submit(RequestClass.INTERACTIVE, () -> await(release));
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(bulkhead.submit(RequestClass.INTERACTIVE, () -> order.add(RequestClass.INTERACTIVE)));
+            futures.add(bulkhead.submit(RequestClass.BULK, () -> order.add(RequestClass.BULK)));
+        }
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertThat(order.subList(0, 8)).filteredOn(c -> c == RequestClass.INTERACTIVE).hasSize(6);
+    }
+
+    @Test
+    @DisplayName("Should cap a lane at its share of the limit")
+    void shouldCapLaneConcurrency() throws Exception {
+        UpstreamBulkhead bulkhead = newBulkhead("bank-a", 4, 100);
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int i = 0; i < 10; i++) {
+            bulkhead.submit(RequestClass.BULK, () -> await(release));
+        }
+
+        assertThat(bulkhead.getInFlight(RequestClass.BULK)).isEqualTo(2);
+        assertThat(bulkhead.submit(RequestClass.INTERACTIVE, () -> 42).get(1, TimeUnit.SECONDS)).isEqualTo(42);
+
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Interactive p99 should stay within budget while a bulk job saturates the upstream")
+    void shouldKeepInteractiveLatencyUnderBulkLoad() throws Exception {
+        UpstreamBulkhead bulkhead = newBulkhead("bank-a", 8, 1_000);
+        long callMillis = 20;
+        long budgetMillis = 150;
+        AtomicBoolean bulkJobCancelled = new AtomicBoolean();
+
+        // 1000 queued bulk calls at 4 concurrent is ~5s of work, well beyond the measurement.
+        List<CompletableFuture<Integer>> bulk = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            bulk.add(bulkhead.submit(RequestClass.BULK, () -> {
+                if (!bulkJobCancelled.get()) {
+                    sleep(callMillis);
+                }
+                return 1;
+            }));
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            long start = System.nanoTime();
+            bulkhead.submit(RequestClass.INTERACTIVE, () -> {
+                sleep(callMillis);
+                return 1;
+            }).get(5, TimeUnit.SECONDS);
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        int bulkBacklog = bulkhead.getQueueDepth();
+        bulkJobCancelled.set(true);
+
+        Collections.sort(latencies);
+        long p99 = latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+        assertThat(bulkBacklog).as("bulk job still saturating the upstream").isPositive();
+        assertThat(p99).as("interactive p99 in ms").isLessThan(budgetMillis);
+
+        CompletableFuture.allOf(bulk.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+    }
+
+    private static int await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 1;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}